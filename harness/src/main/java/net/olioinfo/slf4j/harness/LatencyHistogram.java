@@ -0,0 +1,146 @@
+/* Copyright 2009-2010 Tracy Flynn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.olioinfo.slf4j.harness;
+
+
+/**
+ * <p>High dynamic range histogram of latencies in nanoseconds.</p>
+ *
+ * <p>Values are counted in log-linear buckets: every power of two is split into 128 linear sub-buckets, so any
+ * recorded value is reported to within 1% across the whole positive range of a long. Recording is a few
+ * arithmetic operations and an array increment, and never allocates.</p>
+ *
+ * <p>Instances are not thread safe. Give each producer thread its own histogram and {@link #add} them together
+ * afterwards.</p>
+ *
+ * @author Tracy Flynn
+ * @since 2.12
+ */
+public class LatencyHistogram {
+
+    /**
+     * log2 of the number of sub-buckets per power of two
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+
+    /**
+     * Number of sub-buckets per power of two
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Number of buckets needed to cover every non-negative long
+     */
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+
+    private long totalCount = 0;
+
+    private long maxValue = 0;
+
+    /**
+     * Record a value
+     *
+     * @param value Latency in nanoseconds. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        this.counts[bucketIndex(value)]++;
+        this.totalCount++;
+        if (value > this.maxValue) {
+            this.maxValue = value;
+        }
+    }
+
+    /**
+     * Add the counts from another histogram to this one
+     *
+     * @param other Histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.totalCount += other.totalCount;
+        if (other.maxValue > this.maxValue) {
+            this.maxValue = other.maxValue;
+        }
+    }
+
+    /**
+     * Get the number of recorded values
+     */
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    /**
+     * Get the largest recorded value
+     */
+    public long getMaxValue() {
+        return this.maxValue;
+    }
+
+    /**
+     * Get the value at a percentile
+     *
+     * @param percentile Percentile, from 0.0 to 100.0
+     * @return Highest value equivalent to the recorded value at that percentile, or 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (this.totalCount == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil((percentile / 100.0) * this.totalCount);
+        if (target < 1) {
+            target = 1;
+        }
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += this.counts[i];
+            if (cumulative >= target) {
+                return Math.min(highestEquivalentValue(i), this.maxValue);
+            }
+        }
+        return this.maxValue;
+    }
+
+    /**
+     * Get the bucket a value is counted in
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return ((shift + 1) * SUB_BUCKET_COUNT) + (subBucket - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * Get the largest value counted in a bucket
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index / SUB_BUCKET_COUNT) - 1;
+        long subBucket = (index % SUB_BUCKET_COUNT) + SUB_BUCKET_COUNT;
+        return (subBucket << shift) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,367 @@
+/* Copyright 2009-2010 Tracy Flynn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.olioinfo.slf4j.harness;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+
+import net.olioinfo.slf4j.Slf4jExt;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.AsyncAppender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * <p>End to end load harness for logging configured through Slf4jExt.</p>
+ *
+ * <p>For each appender style, the harness configures logging with Slf4jExt.configureLogging using the
+ * 'harness-&lt;style&gt;-log4j-' configuration files in this package, with 'log.dir' pointing at a fresh temporary
+ * directory. N producer threads then log through an Slf4j Logger, timing every call. For each style it reports
+ * events/s, p50/p99/p99.9/max latency and the allocation rate of the producer threads.</p>
+ *
+ * <p>Each producer logs its warmup events first. The clock starts once every producer has finished warming up, and
+ * stops once the appenders have been flushed by Slf4jExt.shutdown, so events/s includes the cost of draining any
+ * buffers. Latencies are per call, so for the async style they measure handing the event to the AsyncAppender.</p>
+ *
+ * <h3>Styles</h3>
+ *
+ * <ul>
+ * <li>console ConsoleAppender</li>
+ * <li>file FileAppender</li>
+ * <li>bufferedFile FileAppender with BufferedIO</li>
+ * <li>async AsyncAppender in front of a buffered FileAppender. Log4j 1.2 can't configure an AsyncAppender from
+ * properties, so the harness wraps the configured appender in one after Slf4jExt.configureLogging.</li>
+ * </ul>
+ *
+ * <h3>Usage</h3>
+ *
+ * <pre>
+ * mvn exec:java -Dexec.args="--threads 4 --events 200000 --warmup 50000 --styles console,file,bufferedFile,async"
+ * </pre>
+ *
+ * <p>Each option may be omitted. The defaults are shown below.</p>
+ *
+ * <ul>
+ * <li>--threads 4 Number of producer threads</li>
+ * <li>--events 200000 Measured events per thread</li>
+ * <li>--warmup 50000 Unmeasured events per thread logged first</li>
+ * <li>--styles console,file,bufferedFile,async Appender styles to run</li>
+ * <li>--keep Keep the temporary log directory</li>
+ * </ul>
+ *
+ * <p>Console output goes to System.err, so the report on System.out can be separated from it.</p>
+ *
+ * @author Tracy Flynn
+ * @since 2.12
+ */
+public class Slf4jLoadHarness {
+
+    /**
+     * Time allowed for flushing the appenders after each style, in milliseconds
+     */
+    private static final long SHUTDOWN_TIMEOUT = 30000;
+
+    /**
+     * Number of event values boxed up front, so that the measured loop doesn't allocate them. A power of two.
+     */
+    private static final int BOXED_VALUE_COUNT = 1024;
+
+    /**
+     * Buffer size, in events, for the async style
+     */
+    private static final int ASYNC_BUFFER_SIZE = 8192;
+
+    /**
+     * Event values boxed up front
+     */
+    private final Integer[] boxedValues = new Integer[Slf4jLoadHarness.BOXED_VALUE_COUNT];
+
+    private int threads = 4;
+
+    private int events = 200000;
+
+    private int warmup = 50000;
+
+    private String[] styles = {"console", "file", "bufferedFile", "async"};
+
+    private boolean keepLogDir = false;
+
+    /**
+     * Run the harness
+     *
+     * @param args Command line options
+     */
+    public static void main(String[] args) throws Exception {
+        Slf4jLoadHarness harness = new Slf4jLoadHarness();
+        for (int i = 0; i < Slf4jLoadHarness.BOXED_VALUE_COUNT; i++) {
+            harness.boxedValues[i] = Integer.valueOf(i);
+        }
+        harness.parseArguments(args);
+        harness.run();
+    }
+
+    /**
+     * Parse the command line options
+     *
+     * @param args Command line options
+     */
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--keep")) {
+                this.keepLogDir = true;
+            }
+            else if (i + 1 < args.length) {
+                String value = args[++i];
+                if (arg.equals("--threads")) {
+                    this.threads = Integer.parseInt(value);
+                }
+                else if (arg.equals("--events")) {
+                    this.events = Integer.parseInt(value);
+                }
+                else if (arg.equals("--warmup")) {
+                    this.warmup = Integer.parseInt(value);
+                }
+                else if (arg.equals("--styles")) {
+                    this.styles = value.split(",");
+                }
+                else {
+                    throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+            else {
+                throw new IllegalArgumentException("Missing value for option " + arg);
+            }
+        }
+    }
+
+    /**
+     * Run every style and print the report
+     */
+    private void run() throws Exception {
+        File logDir = createLogDir();
+        System.out.println(String.format("Slf4jLoadHarness: threads %d events/thread %d warmup/thread %d log.dir %s",
+                this.threads, this.events, this.warmup, logDir.getPath()));
+        System.out.println(String.format("%-14s %12s %10s %10s %10s %10s %12s %12s",
+                "style", "events/s", "p50 us", "p99 us", "p99.9 us", "max us", "alloc MB/s", "alloc B/evt"));
+        try {
+            for (String style : this.styles) {
+                System.out.println(runStyle(style, logDir));
+            }
+        }
+        finally {
+            if (!this.keepLogDir) {
+                deleteLogDir(logDir);
+            }
+        }
+    }
+
+    /**
+     * Configure logging for one style, drive it and summarize the results
+     *
+     * @param style Appender style
+     * @param logDir Temporary logging directory
+     * @return Report line
+     */
+    private String runStyle(String style, File logDir) throws InterruptedException {
+        System.setProperty("log.dir", logDir.getPath());
+        HashMap<String,String> options = new HashMap<String,String>();
+        options.put("net.olioinfo.eeproperties.configurationFile.prefix", String.format("harness-%s-log4j-", style));
+        options.put("log.dir", logDir.getPath());
+        Slf4jExt slf4jExt = new Slf4jExt();
+        slf4jExt.configureLogging(Slf4jLoadHarness.class, options, null);
+
+        String loggerName = "net.olioinfo.slf4j.harness." + style;
+        if (style.equals("async")) {
+            wrapInAsyncAppender(loggerName);
+        }
+        Logger logger = LoggerFactory.getLogger(loggerName);
+
+        Producer[] producers = new Producer[this.threads];
+        CountDownLatch warmedUpSignal = new CountDownLatch(this.threads);
+        CountDownLatch measureSignal = new CountDownLatch(1);
+        CountDownLatch doneSignal = new CountDownLatch(this.threads);
+        for (int i = 0; i < this.threads; i++) {
+            producers[i] = new Producer(logger, warmedUpSignal, measureSignal, doneSignal);
+            Thread thread = new Thread(producers[i], String.format("harness-%s-%d", style, i));
+            thread.start();
+        }
+        warmedUpSignal.await();
+        long start = System.nanoTime();
+        measureSignal.countDown();
+        doneSignal.await();
+
+        // Closes, and so flushes, the appenders for this style
+        slf4jExt.shutdown(Slf4jLoadHarness.SHUTDOWN_TIMEOUT);
+        long elapsed = System.nanoTime() - start;
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        long allocatedBytes = 0;
+        for (Producer producer : producers) {
+            histogram.add(producer.histogram);
+            if ((allocatedBytes >= 0) && (producer.allocatedBytes >= 0)) {
+                allocatedBytes += producer.allocatedBytes;
+            }
+            else {
+                allocatedBytes = -1;
+            }
+        }
+        long totalEvents = histogram.getTotalCount();
+        double seconds = elapsed / 1e9;
+        String allocationRate = "n/a";
+        String allocationPerEvent = "n/a";
+        if (allocatedBytes >= 0) {
+            allocationRate = String.format("%.1f", (allocatedBytes / (1024.0 * 1024.0)) / seconds);
+            allocationPerEvent = String.format("%.1f", (double) allocatedBytes / totalEvents);
+        }
+        return String.format("%-14s %12.0f %10.2f %10.2f %10.2f %10.2f %12s %12s", style, totalEvents / seconds,
+                histogram.getValueAtPercentile(50.0) / 1e3, histogram.getValueAtPercentile(99.0) / 1e3,
+                histogram.getValueAtPercentile(99.9) / 1e3, histogram.getMaxValue() / 1e3,
+                allocationRate, allocationPerEvent);
+    }
+
+    /**
+     * Move the appenders of a logger behind an AsyncAppender
+     *
+     * @param loggerName Logger name
+     */
+    private void wrapInAsyncAppender(String loggerName) {
+        org.apache.log4j.Logger log4jLogger = org.apache.log4j.Logger.getLogger(loggerName);
+        ArrayList<Appender> appenders = new ArrayList<Appender>();
+        for (Enumeration e = log4jLogger.getAllAppenders() ; e.hasMoreElements() ; ) {
+            appenders.add((Appender) e.nextElement());
+        }
+        AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setName(loggerName + ".ASYNC_APPENDER");
+        asyncAppender.setBufferSize(Slf4jLoadHarness.ASYNC_BUFFER_SIZE);
+        for (Appender appender : appenders) {
+            log4jLogger.removeAppender(appender);
+            asyncAppender.addAppender(appender);
+        }
+        log4jLogger.addAppender(asyncAppender);
+    }
+
+    /**
+     * Create a temporary logging directory
+     *
+     * @return Directory
+     */
+    private File createLogDir() throws IOException {
+        File logDir = File.createTempFile("slf4j-ext-harness", "");
+        if (!logDir.delete() || !logDir.mkdir()) {
+            throw new IOException("Unable to create temporary log directory " + logDir.getPath());
+        }
+        return logDir;
+    }
+
+    /**
+     * Delete the temporary logging directory and the log files in it
+     *
+     * @param logDir Directory
+     */
+    private void deleteLogDir(File logDir) {
+        File[] logFiles = logDir.listFiles();
+        if (logFiles != null) {
+            for (File logFile : logFiles) {
+                logFile.delete();
+            }
+        }
+        logDir.delete();
+    }
+
+    /**
+     * Get the bytes allocated so far by the current thread
+     *
+     * @return Allocated bytes, or -1 if the JVM doesn't report them
+     */
+    private static long currentThreadAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A producer thread. Logs the warmup events, waits for the measurement to start, then logs the measured events,
+     * timing each call.
+     */
+    private class Producer implements Runnable {
+
+        private final Logger logger;
+
+        private final CountDownLatch warmedUpSignal;
+
+        private final CountDownLatch measureSignal;
+
+        private final CountDownLatch doneSignal;
+
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private long allocatedBytes = -1;
+
+        Producer(Logger logger, CountDownLatch warmedUpSignal, CountDownLatch measureSignal, CountDownLatch doneSignal) {
+            this.logger = logger;
+            this.warmedUpSignal = warmedUpSignal;
+            this.measureSignal = measureSignal;
+            this.doneSignal = doneSignal;
+        }
+
+        public void run() {
+            boolean warmedUp = false;
+            try {
+                Integer[] values = Slf4jLoadHarness.this.boxedValues;
+                int mask = Slf4jLoadHarness.BOXED_VALUE_COUNT - 1;
+                String threadName = Thread.currentThread().getName();
+                for (int i = 0; i < Slf4jLoadHarness.this.warmup; i++) {
+                    this.logger.info("warmup event {} from {}", values[i & mask], threadName);
+                }
+                warmedUp = true;
+                this.warmedUpSignal.countDown();
+                this.measureSignal.await();
+                long allocatedAtStart = currentThreadAllocatedBytes();
+                for (int i = 0; i < Slf4jLoadHarness.this.events; i++) {
+                    long start = System.nanoTime();
+                    this.logger.info("event {} from {}", values[i & mask], threadName);
+                    this.histogram.record(System.nanoTime() - start);
+                }
+                long allocatedAtEnd = currentThreadAllocatedBytes();
+                if ((allocatedAtStart >= 0) && (allocatedAtEnd >= 0)) {
+                    this.allocatedBytes = allocatedAtEnd - allocatedAtStart;
+                }
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                if (!warmedUp) {
+                    this.warmedUpSignal.countDown();
+                }
+                this.doneSignal.countDown();
+            }
+        }
+    }
+}
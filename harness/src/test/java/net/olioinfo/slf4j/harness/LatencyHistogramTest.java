@@ -0,0 +1,60 @@
+/* Copyright 2009-2010 Tracy Flynn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.olioinfo.slf4j.harness;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Test suite for LatencyHistogram
+ *
+ * @author Tracy Flynn
+ * @since 2.12
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverValues() {
+        long[] values = {0, 1, 127, 128, 129, 255, 256, 1000, 123456789, Long.MAX_VALUE};
+        for (long value : values) {
+            long highest = LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucketIndex(value));
+            assertTrue(highest >= value);
+            assertTrue((highest - value) <= (value / 100) + 1);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        for (int i = 1; i <= 500; i++) {
+            first.record(i * 1000L);
+            second.record((500 + i) * 1000L);
+        }
+        first.add(second);
+
+        assertEquals(1000, first.getTotalCount());
+        assertEquals(1000000L, first.getMaxValue());
+        long p50 = first.getValueAtPercentile(50.0);
+        long p99 = first.getValueAtPercentile(99.0);
+        assertTrue(p50 >= 500000L && p50 <= 505000L);
+        assertTrue(p99 >= 990000L && p99 <= 1000000L);
+        assertEquals(1000000L, first.getValueAtPercentile(100.0));
+    }
+
+}
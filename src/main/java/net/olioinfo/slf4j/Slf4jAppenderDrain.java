@@ -0,0 +1,125 @@
+/* Copyright 2009-2010 Tracy Flynn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.olioinfo.slf4j;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.Logger;
+
+
+/**
+ * <p>Detaches and closes the appenders created from Slf4jLoadDefinition configurations.</p>
+ *
+ * <p>Closing a Log4j appender flushes anything it has buffered. The appenders are closed in parallel on daemon
+ * threads, and the drain gives up waiting once the deadline has passed, so a slow or stuck appender can't hold up
+ * a reset or JVM exit.</p>
+ *
+ * @author Tracy Flynn
+ * @since 2.12
+ */
+public class Slf4jAppenderDrain {
+
+    /**
+     * Maximum number of appenders closed at the same time
+     */
+    private static final int MAX_THREADS = 8;
+
+    /**
+     * Detach all the appenders from the loggers configured by a set of load definitions. The appenders are not
+     * closed.
+     *
+     * @param loadDefinitions Load definitions
+     * @return Detached appenders, each listed once
+     */
+    public static ArrayList<Appender> detachAppenders(ArrayList<Slf4jLoadDefinition> loadDefinitions) {
+        ArrayList<Appender> appenders = new ArrayList<Appender>();
+        for (Slf4jLoadDefinition loadDefinition : loadDefinitions) {
+            for (Logger logger : loadDefinition.getConfiguredLoggers()) {
+                ArrayList<Appender> loggerAppenders = new ArrayList<Appender>();
+                for (Enumeration e = logger.getAllAppenders() ; e.hasMoreElements() ; ) {
+                    loggerAppenders.add((Appender) e.nextElement());
+                }
+                for (Appender appender : loggerAppenders) {
+                    logger.removeAppender(appender);
+                    if (!appenders.contains(appender)) {
+                        appenders.add(appender);
+                    }
+                }
+            }
+        }
+        return appenders;
+    }
+
+    /**
+     * Close appenders in parallel, waiting no longer than the timeout
+     *
+     * @param appenders Appenders to close
+     * @param timeoutMillis Maximum time to wait in milliseconds
+     * @return Number of appenders that had not finished closing by the deadline
+     */
+    public static int closeAppenders(ArrayList<Appender> appenders, long timeoutMillis) {
+        if (appenders.isEmpty()) {
+            return 0;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(appenders.size(), Slf4jAppenderDrain.MAX_THREADS), new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Slf4jExt-appender-drain");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        ArrayList<Future<?>> closes = new ArrayList<Future<?>>();
+        for (final Appender appender : appenders) {
+            closes.add(executor.submit(new Runnable() {
+                public void run() {
+                    appender.close();
+                }
+            }));
+        }
+        executor.shutdown();
+
+        int unfinished = 0;
+        for (int i = 0; i < closes.size(); i++) {
+            try {
+                closes.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            catch (TimeoutException ex) {
+                unfinished++;
+            }
+            catch (ExecutionException ex) {
+                System.out.println(String.format("Slf4jExt: Warning: Error while closing appender %s. %s", appenders.get(i).getName(), ex.getCause()));
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                unfinished += closes.size() - i;
+                break;
+            }
+        }
+        if (unfinished > 0) {
+            System.out.println(String.format("Slf4jExt: Warning: %d appenders did not finish closing within %dms", unfinished, timeoutMillis));
+        }
+        return unfinished;
+    }
+}
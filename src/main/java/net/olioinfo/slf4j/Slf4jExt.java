@@ -116,10 +116,25 @@ import java.lang.StringBuffer;
  * 
  * <h3>Debugging</h3>
  *
- * <p>To provide detailed tracing to the System.out device, specify the following: (Does not use logging) </p>
+ * <p>To record detailed tracing, specify the following: (Does not use logging) </p>
  *
  * <ul><li>-Dnet.olioinfo.slf4j.consoleTracing=true</li></ul>
  *
+ * <p>Trace events are kept in the fixed size {@link Slf4jTraceBuffer} rather than printed, so tracing can be left on.
+ * They are printed to System.out if configuring logging fails, and can be printed on demand with {@link #sDumpTrace()}
+ * or through JMX. Specify -Dnet.olioinfo.slf4j.consoleTracing.echo=true to also print each event as it is recorded.</p>
+ *
+ *<h3>Shutdown</h3>
+ *
+ *<p>Appenders configured through Slf4jExt are closed, and so flushed, by {@link #shutdown(long)}. A JVM shutdown hook
+ * that does this is registered the first time logging is configured, and removed again by shutdown. resetLogging
+ * drains the old appenders the same way before reloading. Appenders are closed in parallel, and closing gives up after the timeout.</p>
+ *
+ * <ul>
+ * <li>-Dnet.olioinfo.slf4j.shutdownTimeout=5000 Timeout in milliseconds for closing appenders</li>
+ * <li>-Dnet.olioinfo.slf4j.shutdownHookEnable=false Don't register the shutdown hook</li>
+ * </ul>
+ *
  *<h3>See location of logging directory</h3>
  *
  *<p>To display location of logging directory selected at startup, specify the following:</p>
@@ -158,11 +173,21 @@ public class Slf4jExt {
      */
     private static final String[] LOGFILE_DIR_STANDARD_LOCATIONS = {"${user.dir}/logs", "/var/log", "${user.home}/logs", "${user.home}/.logs"};
 
+    /**
+     * Default timeout in milliseconds for closing appenders
+     */
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT = 5000;
+
     /**
      * Singleton instance
      */
     private static Slf4jExt instance = null;
 
+    /**
+     * Shutdown hook, once registered
+     */
+    private static Thread shutdownHook = null;
+
 
     /**
      * EEProperties instance
@@ -195,6 +220,16 @@ public class Slf4jExt {
      * Controls the display of the startup message showing logging directory selected
      */
     private boolean showLoggingDir = false;
+
+    /**
+     * Timeout in milliseconds for closing appenders on shutdown and reset
+     */
+    private long shutdownTimeout = Slf4jExt.DEFAULT_SHUTDOWN_TIMEOUT;
+
+    /**
+     * Register a shutdown hook that closes appenders
+     */
+    private boolean shutdownHookEnable = true;
     
     /**
      * Create an instance of the class
@@ -216,9 +251,18 @@ public class Slf4jExt {
                 this.servletContainerTomcatSupportEnable = false;
             }
         }
-        if (this.consoleTracing) {
-            System.out.println(String.format("consoleTrace: SLF4JExt servletContainerTomcatSupportEnable %s", this.servletContainerTomcatSupportEnable ? "true" : "false"));
+        if (System.getProperty("net.olioinfo.slf4j.shutdownTimeout") != null) {
+            try {
+                this.shutdownTimeout = Long.parseLong(System.getProperty("net.olioinfo.slf4j.shutdownTimeout"));
+            }
+            catch (NumberFormatException ex) {
+                System.out.println(String.format("Slf4jExt: Warning: Ignoring invalid shutdown timeout %s", System.getProperty("net.olioinfo.slf4j.shutdownTimeout")));
+            }
+        }
+        if ((System.getProperty("net.olioinfo.slf4j.shutdownHookEnable") != null) && System.getProperty("net.olioinfo.slf4j.shutdownHookEnable").equals("false")) {
+            this.shutdownHookEnable = false;
         }
+        trace("init", "servletContainerTomcatSupportEnable", null, this.servletContainerTomcatSupportEnable ? "true" : "false");
         
     }
     
@@ -228,7 +272,7 @@ public class Slf4jExt {
     public static Slf4jExt singleton() {
         if (Slf4jExt.instance == null) {
             if (EEProperties.testSystemProperty("net.olioinfo.slf4j.consoleTracing","true")) {
-                System.out.println(String.format("consoleTrace: SLF4JExt Creating singleton instance"));
+                Slf4jTraceBuffer.singleton().record("init", "singleton", null, Slf4jExt.class.getName());
             }
             Slf4jExt.instance = new Slf4jExt();
         }
@@ -274,6 +318,27 @@ public class Slf4jExt {
      * @param eeProperties EEProperties configuration instance
      */
     public void configureLogging(Class klass, HashMap<String,String> options, EEProperties eeProperties ) {
+        try {
+            doConfigureLogging(klass,options,eeProperties);
+        }
+        catch (RuntimeException ex) {
+            dumpTraceOnFailure(ex);
+            throw ex;
+        }
+        catch (Error ex) {
+            dumpTraceOnFailure(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Configure logging for the specified package
+     *
+     * @param klass Class within package to be configured
+     * @param options HashMap of options
+     * @param eeProperties EEProperties configuration instance
+     */
+    private void doConfigureLogging(Class klass, HashMap<String,String> options, EEProperties eeProperties ) {
 
         if (eeProperties == null) {
             eeProperties = EEProperties.singleton();
@@ -293,24 +358,24 @@ public class Slf4jExt {
         if (options != null) combinedOptions.putAll(options);
 
 
+        Properties previousProperties = this.consoleTracing ? (Properties) this.allProperties.clone() : null;
+
         this.eeProperties.loadAndMergeConfigurations(klass,this.allProperties,combinedOptions);
 
-        if (this.consoleTracing) {
-            System.out.println("consoleTrace: Sl4fjExt about to dump properties after initial load");
-            for (String propertyName : this.allProperties.stringPropertyNames()) {
-                System.out.println(String.format("%s=%s",propertyName, this.allProperties.getProperty(propertyName)));
-            }
-        }
+        traceChangedProperties("load", previousProperties, this.allProperties);
 
         extractAndSetLoggingDirProperties(options,eeProperties);
 
         org.apache.log4j.PropertyConfigurator.configure(this.allProperties);
+        Slf4jExtLogger.invalidateLevelCaches();
 
         new Slf4jLoadDefinition(klass,this.allProperties,combinedOptions);
-        
-        if (this.consoleTracing) {
-            System.out.println("consoleTrace: SLF4JExt: finished configuring logging for class " + klass.getName());
+
+        if (this.shutdownHookEnable) {
+            registerShutdownHook(this.shutdownTimeout);
         }
+        
+        trace("configure", klass.getName(), null, "finished");
     }
 
     /**
@@ -327,24 +392,30 @@ public class Slf4jExt {
      * Reload all the logging settings as originally loaded
      */
     public void resetLogging() {
-        ArrayList<Slf4jLoadDefinition> oldLoadDefinitions = Slf4jLoadDefinition.getLoadDefinitions();
-        if (this.consoleTracing) {
-            System.out.println("consoleTrace: Slf4jExt: dumping old properties before reload");
-            for (String propertyName : this.allProperties.stringPropertyNames()) {
-                System.out.println(String.format("%s=%s",propertyName, this.allProperties.getProperty(propertyName)));
+        try {
+            ArrayList<Slf4jLoadDefinition> oldLoadDefinitions;
+            synchronized (Slf4jLoadDefinition.class) {
+                oldLoadDefinitions = Slf4jLoadDefinition.getLoadDefinitions();
+                Slf4jLoadDefinition.resetLoadDefinitions();
             }
-
-        }
-        Slf4jLoadDefinition.resetLoadDefinitions();
-        for (Slf4jLoadDefinition loadDefinition : oldLoadDefinitions ) {
-            Properties oldProperties = loadDefinition.getProperties();
-            org.apache.log4j.PropertyConfigurator.configure(oldProperties);
-            if (this.consoleTracing) {
-                for (String propertyName : this.allProperties.stringPropertyNames()) {
-                    System.out.println(String.format("%s=%s",propertyName, this.allProperties.getProperty(propertyName)));
-                }
+            trace("reset", "loadDefinitions", null, Integer.toString(oldLoadDefinitions.size()));
+            drainAppenders(oldLoadDefinitions, this.shutdownTimeout);
+            for (Slf4jLoadDefinition loadDefinition : oldLoadDefinitions ) {
+                Properties oldProperties = loadDefinition.getProperties();
+                org.apache.log4j.PropertyConfigurator.configure(oldProperties);
+                Slf4jLoadDefinition.registerLoadDefinition(loadDefinition);
+                Slf4jExtLogger.invalidateLevelCaches();
+                traceChangedProperties("reset", this.allProperties, oldProperties);
             }
         }
+        catch (RuntimeException ex) {
+            dumpTraceOnFailure(ex);
+            throw ex;
+        }
+        catch (Error ex) {
+            dumpTraceOnFailure(ex);
+            throw ex;
+        }
     }
 
     /**
@@ -354,6 +425,135 @@ public class Slf4jExt {
         Slf4jExt.singleton().resetLogging();;
     }
 
+    /**
+     * Close, and so flush, all the appenders configured through Slf4jExt, then remove the shutdown hook and unregister
+     * the trace buffer from JMX, so that neither holds on to the class loader
+     *
+     * @param timeoutMillis Maximum time to wait in milliseconds
+     * @return true if all the appenders finished closing within the timeout
+     */
+    public boolean shutdown(long timeoutMillis) {
+        int unfinished = drainAppenders(Slf4jLoadDefinition.getLoadDefinitions(), timeoutMillis);
+        removeShutdownHook();
+        Slf4jTraceBuffer.unregister();
+        return unfinished == 0;
+    }
+
+    /**
+     * Close, and so flush, all the appenders configured through Slf4jExt (singleton)
+     *
+     * @param timeoutMillis Maximum time to wait in milliseconds
+     * @return true if all the appenders finished closing within the timeout
+     */
+    public static boolean sShutdown(long timeoutMillis) {
+        return Slf4jExt.singleton().shutdown(timeoutMillis);
+    }
+
+    /**
+     * Detach the appenders configured by a set of load definitions and close them in parallel
+     *
+     * @param loadDefinitions Load definitions
+     * @param timeoutMillis Maximum time to wait in milliseconds
+     * @return Number of appenders that had not finished closing by the deadline
+     */
+    private int drainAppenders(ArrayList<Slf4jLoadDefinition> loadDefinitions, long timeoutMillis) {
+        ArrayList<org.apache.log4j.Appender> appenders = Slf4jAppenderDrain.detachAppenders(loadDefinitions);
+        int unfinished = Slf4jAppenderDrain.closeAppenders(appenders, timeoutMillis);
+        trace("drain", "appenders", Integer.toString(appenders.size()), Integer.toString(unfinished));
+        return unfinished;
+    }
+
+    /**
+     * Register a JVM shutdown hook that closes all the appenders configured through Slf4jExt. Only the first call
+     * registers a hook.
+     *
+     * @param timeoutMillis Maximum time for the hook to wait in milliseconds
+     */
+    private static synchronized void registerShutdownHook(final long timeoutMillis) {
+        if (Slf4jExt.shutdownHook == null) {
+            Slf4jExt.shutdownHook = new Thread("Slf4jExt-shutdown") {
+                public void run() {
+                    Slf4jAppenderDrain.closeAppenders(Slf4jAppenderDrain.detachAppenders(Slf4jLoadDefinition.getLoadDefinitions()), timeoutMillis);
+                }
+            };
+            try {
+                Runtime.getRuntime().addShutdownHook(Slf4jExt.shutdownHook);
+            }
+            catch (IllegalStateException ex) {
+                // Already shutting down
+            }
+        }
+    }
+
+    /**
+     * Remove the JVM shutdown hook, if one is registered. Configuring logging again registers a new one.
+     */
+    private static synchronized void removeShutdownHook() {
+        if (Slf4jExt.shutdownHook != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(Slf4jExt.shutdownHook);
+            }
+            catch (IllegalStateException ex) {
+                // Already shutting down
+            }
+            Slf4jExt.shutdownHook = null;
+        }
+    }
+
+    /**
+     * Print the recorded trace events to System.out (singleton)
+     */
+    public static void sDumpTrace() {
+        Slf4jTraceBuffer.singleton().dump(System.out);
+    }
+
+    /**
+     * Record a trace event
+     *
+     * @param phase Configuration phase
+     * @param key Property name or other subject of the event
+     * @param oldValue Previous value, or null
+     * @param newValue New value, or null
+     */
+    private void trace(String phase, String key, String oldValue, String newValue) {
+        if (this.consoleTracing) {
+            Slf4jTraceBuffer.singleton().record(phase, key, oldValue, newValue);
+        }
+    }
+
+    /**
+     * Record a trace event for each property whose value differs between two configurations
+     *
+     * @param phase Configuration phase
+     * @param oldProperties Previous configuration
+     * @param newProperties New configuration
+     */
+    private void traceChangedProperties(String phase, Properties oldProperties, Properties newProperties) {
+        if (!this.consoleTracing) {
+            return;
+        }
+        for (String propertyName : newProperties.stringPropertyNames()) {
+            String oldValue = oldProperties.getProperty(propertyName);
+            String newValue = newProperties.getProperty(propertyName);
+            if ((oldValue == null) || !oldValue.equals(newValue)) {
+                trace(phase, propertyName, oldValue, newValue);
+            }
+        }
+    }
+
+    /**
+     * Print the recorded trace events after a configuration failure
+     *
+     * @param ex Failure, either a RuntimeException or an Error such as a NoClassDefFoundError for an appender
+     */
+    private void dumpTraceOnFailure(Throwable ex) {
+        if (this.consoleTracing) {
+            trace("failure", ex.getClass().getName(), null, ex.getMessage());
+            System.out.println("Slf4jExt: Error while configuring logging. Dumping trace.");
+            Slf4jTraceBuffer.singleton().dump(System.out);
+        }
+    }
+
     /**
      * Get a setting from options and EEProperties instance in order if present
      *
@@ -364,15 +564,13 @@ public class Slf4jExt {
      */
     private String getLoggingDirSetting(String propertyName, HashMap<String,String> options, EEProperties eeProperties ) {
 
-        String setting = null;
-
-        if ((eeProperties != null) && (eeProperties.getProperty(propertyName) != null ) ) {
-            setting = eeProperties.getProperty(propertyName);
-        }
         if ((options != null) && options.containsKey(propertyName)) {
-            setting = options.get(propertyName);
+            return options.get(propertyName);
         }
-        return setting;
+        if (eeProperties != null) {
+            return eeProperties.getProperty(propertyName);
+        }
+        return null;
     }
 
     /**
@@ -425,13 +623,8 @@ public class Slf4jExt {
                 }
             }
         }
-        if (this.consoleTracing) {
-            if (loggingDirSettingsPropertyNames.size() > 0) {
-                System.out.println("consoleTrace: Slf4jExt about to list loggingDirSettingsPropertyNames");
-                for (String propertyName : loggingDirSettingsPropertyNames) {
-                    System.out.println(String.format("consoleTrace: Slf4jExt propertyName %s",propertyName));
-                }
-            }
+        for (String propertyName : loggingDirSettingsPropertyNames) {
+            trace("logDir", propertyName, null, "candidate");
         }
 
         boolean writableDirectoryFound  = false;
@@ -439,10 +632,8 @@ public class Slf4jExt {
         for (String propertyName : loggingDirSettingsPropertyNames) {
             String propertyValue = getLoggingDirSetting(propertyName,options,eeProperties);
             if (propertyValue != null) {
+                trace("logDir", propertyName, System.getProperty(propertyName), propertyValue);
                 System.setProperty(propertyName,propertyValue);
-                if (this.consoleTracing) {
-                	System.out.println(String.format("Slf4jExt: Setting %s to %s", propertyName, propertyValue ));
-                }
                 File fileLocation = new File(propertyValue);
                 boolean issueWarning = false;
                 if ( fileLocation.exists() ) {
@@ -469,9 +660,8 @@ public class Slf4jExt {
         }
         else  {
             boolean lookForMore = true;
-            if (this.consoleTracing) {
-                System.out.println(String.format("consoleTrace: Slf4jExt: Current settings: user.dir %s user.home %s",System.getProperty("user.dir"),System.getProperty("user.home")));
-            }
+            trace("logDir", "user.dir", null, System.getProperty("user.dir"));
+            trace("logDir", "user.home", null, System.getProperty("user.home"));
 
             for (String standardLocation : Slf4jExt.LOGFILE_DIR_STANDARD_LOCATIONS) {
                 if (lookForMore) {
@@ -480,9 +670,7 @@ public class Slf4jExt {
                     if (substitutedValue == null) {
                         substitutedValue = standardLocation;
                     }
-                    if (this.consoleTracing) {
-                        System.out.println(String.format("consoleTrace: Slf4jExt: location %s expands to %s",standardLocation,substitutedValue));
-                    }
+                    trace("logDir", standardLocation, null, substitutedValue);
                     File fileLocation = new File(substitutedValue);
                     if ( fileLocation.exists() && fileLocation.canWrite() ) {
                         System.setProperty(loggingPrefix, substitutedValue);
@@ -491,36 +679,26 @@ public class Slf4jExt {
                         if (this.showLoggingDir) {
                         	System.out.println(String.format("Slf4jExt: Defaulting %s to %s", loggingPrefix, substitutedValue ));
                         }
-                        if (this.consoleTracing) {
-                           System.out.println(String.format("Slf4jExt.extractAndSetLoggingDirProperties directory %s exists and is writable",substitutedValue));
-                        }
+                        trace("logDir", loggingPrefix, null, substitutedValue);
                     }
                     else {
-                        if (this.consoleTracing) {
-                           System.out.println(String.format("Slf4jExt.extractAndSetLoggingDirProperties directory %s either doesn't exist or isn't writable",substitutedValue));
-                        }
+                        trace("logDir", substitutedValue, null, "notWritable");
                     }
                 }
 
             }
             if (lookForMore && (!writableDirectoryFound)) {
                 if (servletContainerTomcatSupportEnable) {
-                    if (this.consoleTracing) {
-                        System.out.println(String.format("consoleTrace: Slf4jExt: No writable logging directory found in standard locations, and servlet container support for Tomcat is enabled. Going to check a few places ..." ));
-                    }
+                    trace("tomcat", loggingPrefix, null, "searching");
                     String tomcatDir = servletContainerTomcatSupport();
                     if (tomcatDir == null) {
-                        if (this.consoleTracing) {
-                            System.out.println(String.format("consoleTrace: Slf4jExt: No writable Tomcat directory found"));
-                        }
+                        trace("tomcat", loggingPrefix, null, "notFound");
                     }
                     else {
                         System.setProperty(loggingPrefix, tomcatDir);
                         lookForMore = false;
                         writableDirectoryFound = true;
-                        if (this.consoleTracing) {
-                            System.out.println(String.format("consoleTrace: Slf4jExt: Defaulting ${log.dir} to writable Tomcat directory found at %s",tomcatDir ));
-                        }
+                        trace("tomcat", loggingPrefix, null, tomcatDir);
                     }
                 }
             }
@@ -569,9 +747,7 @@ public class Slf4jExt {
                 File logDirLocation = new File(logDir);
                 if (logDirLocation.exists() && logDirLocation.canWrite()) {
                     tomcatLogDir = logDir;
-                    if (this.consoleTracing) {
-                        System.out.println(String.format("consoleTrace: Slf4jExt: Found writable Tomcat directory relative to current directory %s",tomcatLogDir));
-                    }
+                    trace("tomcat", "user.dir", null, tomcatLogDir);
                 }
 
             }
@@ -582,9 +758,7 @@ public class Slf4jExt {
                 File logDirLocation = new File(logDir);
                 if (logDirLocation.exists() && logDirLocation.canWrite()) {
                     tomcatLogDir = logDir;
-                    if (this.consoleTracing) {
-                        System.out.println(String.format("consoleTrace: Slf4jExt: Found writable Tomcat directory relative to CATALINA_HOME %s",tomcatLogDir));
-                    }
+                    trace("tomcat", "CATALINA_HOME", null, tomcatLogDir);
                 }
             }
 
@@ -0,0 +1,970 @@
+/* Copyright 2009-2010 Tracy Flynn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.olioinfo.slf4j;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * <p>Thin facade over an Slf4j Logger for hot code paths.</p>
+ *
+ * <p>The enabled levels are looked up once and cached. The cache is tied to the configuration generation, which
+ * Slf4jExt advances every time it configures or resets logging, so a disabled statement costs one volatile read
+ * and a comparison. Calls with three or four arguments only build their argument array when the level is
+ * enabled.</p>
+ *
+ * <p>A single primitive argument is only boxed when the level is enabled. Each primitive type has its own overload,
+ * so what gets logged is the same as through org.slf4j.Logger. There are deliberately no overloads taking two or
+ * more primitives: Java would widen a char or float argument to fit them, changing what gets logged. Calls with two
+ * or more primitive arguments resolve to the Object overloads, and the compiler boxes those arguments at the call
+ * site whatever the level. Where that matters on a hot path, guard the call; the guard is just as cheap.</p>
+ *
+ * <pre>
+ * private static final Slf4jExtLogger logger = Slf4jExtLogger.getLogger(MyClass.class);
+ *
+ * logger.debug("Processed {} items", count);
+ * if (logger.isDebugEnabled()) {
+ *     logger.debug("Processed {} of {} in {}ms", count, total, elapsedMillis);
+ * }
+ * </pre>
+ *
+ * <p>Levels changed directly through the Log4j API are not seen until the next call to
+ * {@link Slf4jExt#configureLogging} or {@link Slf4jExt#resetLogging}, or to {@link #invalidateLevelCaches()}.</p>
+ *
+ * @author Tracy Flynn
+ * @since 2.12
+ */
+public class Slf4jExtLogger {
+
+    private static final int TRACE = 1;
+
+    private static final int DEBUG = 1 << 1;
+
+    private static final int INFO = 1 << 2;
+
+    private static final int WARN = 1 << 3;
+
+    private static final int ERROR = 1 << 4;
+
+    /**
+     * Configuration generation. Advanced whenever the logging configuration changes.
+     */
+    private static volatile int generation = 0;
+
+    /**
+     * Underlying Slf4j logger
+     */
+    private final Logger logger;
+
+    /**
+     * Enabled levels as of a configuration generation. Replaced as a whole, so it is always consistent.
+     */
+    private LevelCache levels = new LevelCache(-1, 0);
+
+    /**
+     * Create a facade for an Slf4j logger
+     *
+     * @param logger Slf4j logger
+     */
+    public Slf4jExtLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Get a facade for the named logger
+     *
+     * @param name Logger name
+     */
+    public static Slf4jExtLogger getLogger(String name) {
+        return new Slf4jExtLogger(LoggerFactory.getLogger(name));
+    }
+
+    /**
+     * Get a facade for the logger named after a class
+     *
+     * @param klass Class
+     */
+    public static Slf4jExtLogger getLogger(Class klass) {
+        return new Slf4jExtLogger(LoggerFactory.getLogger(klass));
+    }
+
+    /**
+     * Discard the cached levels of every Slf4jExtLogger
+     */
+    public static synchronized void invalidateLevelCaches() {
+        Slf4jExtLogger.generation++;
+    }
+
+    /**
+     * Get the underlying Slf4j logger
+     */
+    public Logger getLogger() {
+        return this.logger;
+    }
+
+    public String getName() {
+        return this.logger.getName();
+    }
+
+    /**
+     * Is a level enabled, according to the cached levels?
+     *
+     * @param level Level bit
+     */
+    private boolean isEnabled(int level) {
+        LevelCache current = this.levels;
+        if (current.generation != Slf4jExtLogger.generation) {
+            current = refreshLevels();
+        }
+        return (current.enabled & level) != 0;
+    }
+
+    /**
+     * Look up the enabled levels from the underlying logger
+     */
+    private LevelCache refreshLevels() {
+        int currentGeneration = Slf4jExtLogger.generation;
+        int enabled = 0;
+        if (this.logger.isTraceEnabled()) {
+            enabled |= TRACE;
+        }
+        if (this.logger.isDebugEnabled()) {
+            enabled |= DEBUG;
+        }
+        if (this.logger.isInfoEnabled()) {
+            enabled |= INFO;
+        }
+        if (this.logger.isWarnEnabled()) {
+            enabled |= WARN;
+        }
+        if (this.logger.isErrorEnabled()) {
+            enabled |= ERROR;
+        }
+        LevelCache current = new LevelCache(currentGeneration, enabled);
+        this.levels = current;
+        return current;
+    }
+
+    /**
+     * Is the logger instance enabled for the TRACE level?
+     *
+     * @return true if TRACE is enabled, according to the cached levels
+     */
+    public boolean isTraceEnabled() {
+        return isEnabled(TRACE);
+    }
+
+    /**
+     * Log a message at the TRACE level
+     *
+     * @param msg Message
+     */
+    public void trace(String msg) {
+        if (isEnabled(TRACE)) {
+            this.logger.trace(msg);
+        }
+    }
+
+    /**
+     * Log a message at the TRACE level with one argument
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void trace(String format, Object arg) {
+        if (isEnabled(TRACE)) {
+            this.logger.trace(format, arg);
+        }
+    }
+
+    /**
+     * Log a message at the TRACE level with two arguments
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     */
+    public void trace(String format, Object arg1, Object arg2) {
+        if (isEnabled(TRACE)) {
+            this.logger.trace(format, arg1, arg2);
+        }
+    }
+
+    /**
+     * Log a message at the TRACE level with three arguments. The argument array is only built if TRACE is enabled.
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     * @param arg3 Third argument
+     */
+    public void trace(String format, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(TRACE)) {
+            this.logger.trace(format, new Object[] {arg1, arg2, arg3});
+        }
+    }
+
+    /**
+     * Log a message at the TRACE level with four arguments. The argument array is only built if TRACE is enabled.
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     * @param arg3 Third argument
+     * @param arg4 Fourth argument
+     */
+    public void trace(String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isEnabled(TRACE)) {
+            this.logger.trace(format, new Object[] {arg1, arg2, arg3, arg4});
+        }
+    }
+
+    /**
+     * Log a message at the TRACE level with an array of arguments
+     *
+     * @param format Format string
+     * @param argArray Arguments
+     */
+    public void trace(String format, Object[] argArray) {
+        if (isEnabled(TRACE)) {
+            this.logger.trace(format, argArray);
+        }
+    }
+
+    /**
+     * Log a message at the TRACE level with one long argument. Also used for int, short and byte
+     * arguments. The argument is only boxed if TRACE is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void trace(String format, long arg) {
+        if (isEnabled(TRACE)) {
+            this.logger.trace(format, Long.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the TRACE level with one double argument. The argument is only boxed if TRACE is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void trace(String format, double arg) {
+        if (isEnabled(TRACE)) {
+            this.logger.trace(format, Double.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the TRACE level with one float argument. The argument is only boxed if TRACE is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void trace(String format, float arg) {
+        if (isEnabled(TRACE)) {
+            this.logger.trace(format, Float.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the TRACE level with one boolean argument. The argument is only boxed if TRACE is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void trace(String format, boolean arg) {
+        if (isEnabled(TRACE)) {
+            this.logger.trace(format, Boolean.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the TRACE level with one char argument. The argument is only boxed if TRACE is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void trace(String format, char arg) {
+        if (isEnabled(TRACE)) {
+            this.logger.trace(format, Character.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log an exception at the TRACE level
+     *
+     * @param msg Message
+     * @param t Exception
+     */
+    public void trace(String msg, Throwable t) {
+        if (isEnabled(TRACE)) {
+            this.logger.trace(msg, t);
+        }
+    }
+
+    /**
+     * Is the logger instance enabled for the DEBUG level?
+     *
+     * @return true if DEBUG is enabled, according to the cached levels
+     */
+    public boolean isDebugEnabled() {
+        return isEnabled(DEBUG);
+    }
+
+    /**
+     * Log a message at the DEBUG level
+     *
+     * @param msg Message
+     */
+    public void debug(String msg) {
+        if (isEnabled(DEBUG)) {
+            this.logger.debug(msg);
+        }
+    }
+
+    /**
+     * Log a message at the DEBUG level with one argument
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void debug(String format, Object arg) {
+        if (isEnabled(DEBUG)) {
+            this.logger.debug(format, arg);
+        }
+    }
+
+    /**
+     * Log a message at the DEBUG level with two arguments
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     */
+    public void debug(String format, Object arg1, Object arg2) {
+        if (isEnabled(DEBUG)) {
+            this.logger.debug(format, arg1, arg2);
+        }
+    }
+
+    /**
+     * Log a message at the DEBUG level with three arguments. The argument array is only built if DEBUG is enabled.
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     * @param arg3 Third argument
+     */
+    public void debug(String format, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(DEBUG)) {
+            this.logger.debug(format, new Object[] {arg1, arg2, arg3});
+        }
+    }
+
+    /**
+     * Log a message at the DEBUG level with four arguments. The argument array is only built if DEBUG is enabled.
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     * @param arg3 Third argument
+     * @param arg4 Fourth argument
+     */
+    public void debug(String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isEnabled(DEBUG)) {
+            this.logger.debug(format, new Object[] {arg1, arg2, arg3, arg4});
+        }
+    }
+
+    /**
+     * Log a message at the DEBUG level with an array of arguments
+     *
+     * @param format Format string
+     * @param argArray Arguments
+     */
+    public void debug(String format, Object[] argArray) {
+        if (isEnabled(DEBUG)) {
+            this.logger.debug(format, argArray);
+        }
+    }
+
+    /**
+     * Log a message at the DEBUG level with one long argument. Also used for int, short and byte
+     * arguments. The argument is only boxed if DEBUG is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void debug(String format, long arg) {
+        if (isEnabled(DEBUG)) {
+            this.logger.debug(format, Long.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the DEBUG level with one double argument. The argument is only boxed if DEBUG is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void debug(String format, double arg) {
+        if (isEnabled(DEBUG)) {
+            this.logger.debug(format, Double.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the DEBUG level with one float argument. The argument is only boxed if DEBUG is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void debug(String format, float arg) {
+        if (isEnabled(DEBUG)) {
+            this.logger.debug(format, Float.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the DEBUG level with one boolean argument. The argument is only boxed if DEBUG is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void debug(String format, boolean arg) {
+        if (isEnabled(DEBUG)) {
+            this.logger.debug(format, Boolean.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the DEBUG level with one char argument. The argument is only boxed if DEBUG is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void debug(String format, char arg) {
+        if (isEnabled(DEBUG)) {
+            this.logger.debug(format, Character.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log an exception at the DEBUG level
+     *
+     * @param msg Message
+     * @param t Exception
+     */
+    public void debug(String msg, Throwable t) {
+        if (isEnabled(DEBUG)) {
+            this.logger.debug(msg, t);
+        }
+    }
+
+    /**
+     * Is the logger instance enabled for the INFO level?
+     *
+     * @return true if INFO is enabled, according to the cached levels
+     */
+    public boolean isInfoEnabled() {
+        return isEnabled(INFO);
+    }
+
+    /**
+     * Log a message at the INFO level
+     *
+     * @param msg Message
+     */
+    public void info(String msg) {
+        if (isEnabled(INFO)) {
+            this.logger.info(msg);
+        }
+    }
+
+    /**
+     * Log a message at the INFO level with one argument
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void info(String format, Object arg) {
+        if (isEnabled(INFO)) {
+            this.logger.info(format, arg);
+        }
+    }
+
+    /**
+     * Log a message at the INFO level with two arguments
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     */
+    public void info(String format, Object arg1, Object arg2) {
+        if (isEnabled(INFO)) {
+            this.logger.info(format, arg1, arg2);
+        }
+    }
+
+    /**
+     * Log a message at the INFO level with three arguments. The argument array is only built if INFO is enabled.
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     * @param arg3 Third argument
+     */
+    public void info(String format, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(INFO)) {
+            this.logger.info(format, new Object[] {arg1, arg2, arg3});
+        }
+    }
+
+    /**
+     * Log a message at the INFO level with four arguments. The argument array is only built if INFO is enabled.
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     * @param arg3 Third argument
+     * @param arg4 Fourth argument
+     */
+    public void info(String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isEnabled(INFO)) {
+            this.logger.info(format, new Object[] {arg1, arg2, arg3, arg4});
+        }
+    }
+
+    /**
+     * Log a message at the INFO level with an array of arguments
+     *
+     * @param format Format string
+     * @param argArray Arguments
+     */
+    public void info(String format, Object[] argArray) {
+        if (isEnabled(INFO)) {
+            this.logger.info(format, argArray);
+        }
+    }
+
+    /**
+     * Log a message at the INFO level with one long argument. Also used for int, short and byte
+     * arguments. The argument is only boxed if INFO is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void info(String format, long arg) {
+        if (isEnabled(INFO)) {
+            this.logger.info(format, Long.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the INFO level with one double argument. The argument is only boxed if INFO is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void info(String format, double arg) {
+        if (isEnabled(INFO)) {
+            this.logger.info(format, Double.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the INFO level with one float argument. The argument is only boxed if INFO is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void info(String format, float arg) {
+        if (isEnabled(INFO)) {
+            this.logger.info(format, Float.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the INFO level with one boolean argument. The argument is only boxed if INFO is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void info(String format, boolean arg) {
+        if (isEnabled(INFO)) {
+            this.logger.info(format, Boolean.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the INFO level with one char argument. The argument is only boxed if INFO is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void info(String format, char arg) {
+        if (isEnabled(INFO)) {
+            this.logger.info(format, Character.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log an exception at the INFO level
+     *
+     * @param msg Message
+     * @param t Exception
+     */
+    public void info(String msg, Throwable t) {
+        if (isEnabled(INFO)) {
+            this.logger.info(msg, t);
+        }
+    }
+
+    /**
+     * Is the logger instance enabled for the WARN level?
+     *
+     * @return true if WARN is enabled, according to the cached levels
+     */
+    public boolean isWarnEnabled() {
+        return isEnabled(WARN);
+    }
+
+    /**
+     * Log a message at the WARN level
+     *
+     * @param msg Message
+     */
+    public void warn(String msg) {
+        if (isEnabled(WARN)) {
+            this.logger.warn(msg);
+        }
+    }
+
+    /**
+     * Log a message at the WARN level with one argument
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void warn(String format, Object arg) {
+        if (isEnabled(WARN)) {
+            this.logger.warn(format, arg);
+        }
+    }
+
+    /**
+     * Log a message at the WARN level with two arguments
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     */
+    public void warn(String format, Object arg1, Object arg2) {
+        if (isEnabled(WARN)) {
+            this.logger.warn(format, arg1, arg2);
+        }
+    }
+
+    /**
+     * Log a message at the WARN level with three arguments. The argument array is only built if WARN is enabled.
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     * @param arg3 Third argument
+     */
+    public void warn(String format, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(WARN)) {
+            this.logger.warn(format, new Object[] {arg1, arg2, arg3});
+        }
+    }
+
+    /**
+     * Log a message at the WARN level with four arguments. The argument array is only built if WARN is enabled.
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     * @param arg3 Third argument
+     * @param arg4 Fourth argument
+     */
+    public void warn(String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isEnabled(WARN)) {
+            this.logger.warn(format, new Object[] {arg1, arg2, arg3, arg4});
+        }
+    }
+
+    /**
+     * Log a message at the WARN level with an array of arguments
+     *
+     * @param format Format string
+     * @param argArray Arguments
+     */
+    public void warn(String format, Object[] argArray) {
+        if (isEnabled(WARN)) {
+            this.logger.warn(format, argArray);
+        }
+    }
+
+    /**
+     * Log a message at the WARN level with one long argument. Also used for int, short and byte
+     * arguments. The argument is only boxed if WARN is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void warn(String format, long arg) {
+        if (isEnabled(WARN)) {
+            this.logger.warn(format, Long.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the WARN level with one double argument. The argument is only boxed if WARN is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void warn(String format, double arg) {
+        if (isEnabled(WARN)) {
+            this.logger.warn(format, Double.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the WARN level with one float argument. The argument is only boxed if WARN is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void warn(String format, float arg) {
+        if (isEnabled(WARN)) {
+            this.logger.warn(format, Float.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the WARN level with one boolean argument. The argument is only boxed if WARN is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void warn(String format, boolean arg) {
+        if (isEnabled(WARN)) {
+            this.logger.warn(format, Boolean.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the WARN level with one char argument. The argument is only boxed if WARN is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void warn(String format, char arg) {
+        if (isEnabled(WARN)) {
+            this.logger.warn(format, Character.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log an exception at the WARN level
+     *
+     * @param msg Message
+     * @param t Exception
+     */
+    public void warn(String msg, Throwable t) {
+        if (isEnabled(WARN)) {
+            this.logger.warn(msg, t);
+        }
+    }
+
+    /**
+     * Is the logger instance enabled for the ERROR level?
+     *
+     * @return true if ERROR is enabled, according to the cached levels
+     */
+    public boolean isErrorEnabled() {
+        return isEnabled(ERROR);
+    }
+
+    /**
+     * Log a message at the ERROR level
+     *
+     * @param msg Message
+     */
+    public void error(String msg) {
+        if (isEnabled(ERROR)) {
+            this.logger.error(msg);
+        }
+    }
+
+    /**
+     * Log a message at the ERROR level with one argument
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void error(String format, Object arg) {
+        if (isEnabled(ERROR)) {
+            this.logger.error(format, arg);
+        }
+    }
+
+    /**
+     * Log a message at the ERROR level with two arguments
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     */
+    public void error(String format, Object arg1, Object arg2) {
+        if (isEnabled(ERROR)) {
+            this.logger.error(format, arg1, arg2);
+        }
+    }
+
+    /**
+     * Log a message at the ERROR level with three arguments. The argument array is only built if ERROR is enabled.
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     * @param arg3 Third argument
+     */
+    public void error(String format, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(ERROR)) {
+            this.logger.error(format, new Object[] {arg1, arg2, arg3});
+        }
+    }
+
+    /**
+     * Log a message at the ERROR level with four arguments. The argument array is only built if ERROR is enabled.
+     *
+     * @param format Format string
+     * @param arg1 First argument
+     * @param arg2 Second argument
+     * @param arg3 Third argument
+     * @param arg4 Fourth argument
+     */
+    public void error(String format, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isEnabled(ERROR)) {
+            this.logger.error(format, new Object[] {arg1, arg2, arg3, arg4});
+        }
+    }
+
+    /**
+     * Log a message at the ERROR level with an array of arguments
+     *
+     * @param format Format string
+     * @param argArray Arguments
+     */
+    public void error(String format, Object[] argArray) {
+        if (isEnabled(ERROR)) {
+            this.logger.error(format, argArray);
+        }
+    }
+
+    /**
+     * Log a message at the ERROR level with one long argument. Also used for int, short and byte
+     * arguments. The argument is only boxed if ERROR is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void error(String format, long arg) {
+        if (isEnabled(ERROR)) {
+            this.logger.error(format, Long.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the ERROR level with one double argument. The argument is only boxed if ERROR is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void error(String format, double arg) {
+        if (isEnabled(ERROR)) {
+            this.logger.error(format, Double.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the ERROR level with one float argument. The argument is only boxed if ERROR is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void error(String format, float arg) {
+        if (isEnabled(ERROR)) {
+            this.logger.error(format, Float.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the ERROR level with one boolean argument. The argument is only boxed if ERROR is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void error(String format, boolean arg) {
+        if (isEnabled(ERROR)) {
+            this.logger.error(format, Boolean.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log a message at the ERROR level with one char argument. The argument is only boxed if ERROR is enabled.
+     *
+     * @param format Format string
+     * @param arg Argument
+     */
+    public void error(String format, char arg) {
+        if (isEnabled(ERROR)) {
+            this.logger.error(format, Character.valueOf(arg));
+        }
+    }
+
+    /**
+     * Log an exception at the ERROR level
+     *
+     * @param msg Message
+     * @param t Exception
+     */
+    public void error(String msg, Throwable t) {
+        if (isEnabled(ERROR)) {
+            this.logger.error(msg, t);
+        }
+    }
+
+    /**
+     * Enabled levels as of a configuration generation
+     */
+    private static class LevelCache {
+
+        private final int generation;
+
+        private final int enabled;
+
+        LevelCache(int generation, int enabled) {
+            this.generation = generation;
+            this.enabled = enabled;
+        }
+    }
+}
@@ -18,6 +18,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Properties;
 
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
 
 /**
  * Load definition
@@ -34,7 +37,7 @@ public class Slf4jLoadDefinition {
     private HashMap<String,String> options = new HashMap<String,String>();
 
     /**
-     * Load definitions
+     * Load definitions. Only accessed while holding the Slf4jLoadDefinition class lock.
      */
     private static ArrayList<Slf4jLoadDefinition> loadDefinitions = new ArrayList<Slf4jLoadDefinition>();
 
@@ -49,16 +52,21 @@ public class Slf4jLoadDefinition {
         Slf4jLoadDefinition.registerLoadDefinition(this);
     }
 
-    public static void registerLoadDefinition(Slf4jLoadDefinition loadDefinition) {
+    public static synchronized void registerLoadDefinition(Slf4jLoadDefinition loadDefinition) {
         Slf4jLoadDefinition.loadDefinitions.add(loadDefinition);
     }
 
 
-    public static ArrayList<Slf4jLoadDefinition> getLoadDefinitions() {
-        return Slf4jLoadDefinition.loadDefinitions;
+    /**
+     * Get the load definitions registered so far
+     *
+     * @return Copy of the load definitions, safe to iterate while others are registered
+     */
+    public static synchronized ArrayList<Slf4jLoadDefinition> getLoadDefinitions() {
+        return new ArrayList<Slf4jLoadDefinition>(Slf4jLoadDefinition.loadDefinitions);
     }
 
-    public static void resetLoadDefinitions() {
+    public static synchronized void resetLoadDefinitions() {
         Slf4jLoadDefinition.loadDefinitions = new ArrayList<Slf4jLoadDefinition>();
 
     }
@@ -67,4 +75,29 @@ public class Slf4jLoadDefinition {
     public Properties getProperties() {
         return properties;
     }
+
+    /**
+     * Get the Log4j loggers this definition configures, including the root logger if it is configured
+     *
+     * @return Loggers that currently exist
+     */
+    public ArrayList<Logger> getConfiguredLoggers() {
+        ArrayList<Logger> loggers = new ArrayList<Logger>();
+        for (String propertyName : this.properties.stringPropertyNames()) {
+            Logger logger = null;
+            if (propertyName.equals("log4j.rootLogger") || propertyName.equals("log4j.rootCategory")) {
+                logger = Logger.getRootLogger();
+            }
+            else if (propertyName.startsWith("log4j.logger.")) {
+                logger = LogManager.exists(propertyName.substring("log4j.logger.".length()));
+            }
+            else if (propertyName.startsWith("log4j.category.")) {
+                logger = LogManager.exists(propertyName.substring("log4j.category.".length()));
+            }
+            if ((logger != null) && !loggers.contains(logger)) {
+                loggers.add(logger);
+            }
+        }
+        return loggers;
+    }
 }
\ No newline at end of file
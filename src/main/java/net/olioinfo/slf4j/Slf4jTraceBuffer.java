@@ -0,0 +1,231 @@
+/* Copyright 2009-2010 Tracy Flynn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.olioinfo.slf4j;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.management.ObjectName;
+
+
+/**
+ * <p>Fixed size, lock-free ring buffer of Slf4jTraceEvent instances.</p>
+ *
+ * <p>Slf4jExt records its console tracing here instead of writing to System.out, so tracing is cheap enough to be
+ * left on. Once the buffer is full the oldest events are overwritten. The retained events can be dumped on demand
+ * with {@link #dump(PrintStream)}, through JMX, or are dumped automatically when configuring logging fails.</p>
+ *
+ * <p>The JMX name is 'net.olioinfo.slf4j:type=TraceBuffer,classLoader=&lt;id&gt;', where the id identifies the class
+ * loader Slf4jExt was loaded by, so that each webapp in a servlet container gets its own buffer.
+ * {@link Slf4jExt#shutdown(long)} unregisters it, so that it doesn't hold on to the class loader.</p>
+ *
+ * <h3>Settings</h3>
+ *
+ * <ul>
+ * <li>-Dnet.olioinfo.slf4j.consoleTracing.bufferSize=n Number of events retained. The default is 1024.</li>
+ * <li>-Dnet.olioinfo.slf4j.consoleTracing.echo=true Also print each event to System.out as it is recorded.</li>
+ * </ul>
+ *
+ * @author Tracy Flynn
+ * @since 2.12
+ */
+public class Slf4jTraceBuffer implements Slf4jTraceBufferMBean {
+
+    /**
+     * Default number of events retained
+     */
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * JMX name prefix. The class loader id is appended.
+     */
+    private static final String MBEAN_NAME_PREFIX = "net.olioinfo.slf4j:type=TraceBuffer,classLoader=";
+
+    /**
+     * Singleton instance
+     */
+    private static Slf4jTraceBuffer instance = null;
+
+    /**
+     * JMX name the singleton is registered under, or null if it isn't registered
+     */
+    private static ObjectName registeredName = null;
+
+    /**
+     * Event slots
+     */
+    private final AtomicReferenceArray<Slf4jTraceEvent> events;
+
+    /**
+     * Sequence number of the next event
+     */
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    /**
+     * Print events as they are recorded
+     */
+    private boolean echo = false;
+
+    /**
+     * Create a buffer
+     *
+     * @param capacity Number of events retained
+     */
+    public Slf4jTraceBuffer(int capacity) {
+        if (capacity < 1) {
+            capacity = 1;
+        }
+        this.events = new AtomicReferenceArray<Slf4jTraceEvent>(capacity);
+    }
+
+    /**
+     * Get singleton instance, sized and registered with JMX on first use
+     */
+    public static synchronized Slf4jTraceBuffer singleton() {
+        if (Slf4jTraceBuffer.instance == null) {
+            int capacity = Slf4jTraceBuffer.DEFAULT_CAPACITY;
+            String bufferSize = System.getProperty("net.olioinfo.slf4j.consoleTracing.bufferSize");
+            if (bufferSize != null) {
+                try {
+                    capacity = Integer.parseInt(bufferSize);
+                }
+                catch (NumberFormatException ex) {
+                    System.out.println(String.format("Slf4jExt: Warning: Ignoring invalid trace buffer size %s", bufferSize));
+                }
+            }
+            Slf4jTraceBuffer traceBuffer = new Slf4jTraceBuffer(capacity);
+            traceBuffer.echo = "true".equals(System.getProperty("net.olioinfo.slf4j.consoleTracing.echo"));
+            try {
+                ObjectName name = new ObjectName(Slf4jTraceBuffer.MBEAN_NAME_PREFIX
+                        + Integer.toHexString(System.identityHashCode(Slf4jTraceBuffer.class.getClassLoader())));
+                ManagementFactory.getPlatformMBeanServer().registerMBean(traceBuffer, name);
+                Slf4jTraceBuffer.registeredName = name;
+            }
+            catch (Exception ex) {
+                System.out.println("Slf4jExt: Warning: Unable to register trace buffer with JMX. " + ex.toString());
+            }
+            Slf4jTraceBuffer.instance = traceBuffer;
+        }
+        return Slf4jTraceBuffer.instance;
+    }
+
+    /**
+     * Unregister the singleton from JMX, if it is registered. The buffer itself keeps working.
+     */
+    public static synchronized void unregister() {
+        if (Slf4jTraceBuffer.registeredName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(Slf4jTraceBuffer.registeredName);
+            }
+            catch (Exception ex) {
+                System.out.println("Slf4jExt: Warning: Unable to unregister trace buffer from JMX. " + ex.toString());
+            }
+            Slf4jTraceBuffer.registeredName = null;
+        }
+    }
+
+    /**
+     * Get the JMX name the singleton is registered under
+     *
+     * @return Name, or null if it isn't registered
+     */
+    public static synchronized ObjectName getRegisteredName() {
+        return Slf4jTraceBuffer.registeredName;
+    }
+
+    /**
+     * Record an event. If the buffer has wrapped all the way round while the event was being recorded, the event
+     * is dropped rather than overwrite a newer one.
+     *
+     * @param phase Configuration phase
+     * @param key Property name or other subject of the event
+     * @param oldValue Previous value, or null
+     * @param newValue New value, or null
+     */
+    public void record(String phase, String key, String oldValue, String newValue) {
+        long sequence = this.nextSequence.getAndIncrement();
+        Slf4jTraceEvent event = new Slf4jTraceEvent(sequence, System.currentTimeMillis(), phase, key, oldValue, newValue);
+        int slot = (int) (sequence % this.events.length());
+        // A writer that has fallen a whole lap behind must not overwrite a newer event; its own event is dropped
+        while (true) {
+            Slf4jTraceEvent current = this.events.get(slot);
+            if ((current != null) && (current.getSequence() > sequence)) {
+                break;
+            }
+            if (this.events.compareAndSet(slot, current, event)) {
+                break;
+            }
+        }
+        if (this.echo) {
+            System.out.println(event);
+        }
+    }
+
+    /**
+     * Get the retained events, oldest first
+     *
+     * @return List of events
+     */
+    public ArrayList<Slf4jTraceEvent> getEvents() {
+        int capacity = this.events.length();
+        long end = this.nextSequence.get();
+        long start = Math.max(0, end - capacity);
+        ArrayList<Slf4jTraceEvent> snapshot = new ArrayList<Slf4jTraceEvent>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Slf4jTraceEvent event = this.events.get((int) (sequence % capacity));
+            // Skip slots not yet written, or already overwritten by a later event
+            if ((event != null) && (event.getSequence() == sequence)) {
+                snapshot.add(event);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Print the retained events, oldest first
+     *
+     * @param out Destination
+     */
+    public void dump(PrintStream out) {
+        for (Slf4jTraceEvent event : getEvents()) {
+            out.println(event);
+        }
+    }
+
+    public String dump() {
+        StringBuilder dump = new StringBuilder();
+        for (Slf4jTraceEvent event : getEvents()) {
+            dump.append(event).append('\n');
+        }
+        return dump.toString();
+    }
+
+    public int getCapacity() {
+        return this.events.length();
+    }
+
+    public long getRecordedCount() {
+        return this.nextSequence.get();
+    }
+
+    public void clear() {
+        for (int i = 0; i < this.events.length(); i++) {
+            this.events.set(i, null);
+        }
+    }
+}
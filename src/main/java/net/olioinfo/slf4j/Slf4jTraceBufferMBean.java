@@ -0,0 +1,45 @@
+/* Copyright 2009-2010 Tracy Flynn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.olioinfo.slf4j;
+
+
+/**
+ * JMX management interface for the Slf4jTraceBuffer
+ *
+ * @author Tracy Flynn
+ * @since 2.12
+ */
+public interface Slf4jTraceBufferMBean {
+
+    /**
+     * Get the maximum number of events retained
+     */
+    public int getCapacity();
+
+    /**
+     * Get the total number of events recorded, including those since overwritten
+     */
+    public long getRecordedCount();
+
+    /**
+     * Get the retained events, oldest first, one per line
+     */
+    public String dump();
+
+    /**
+     * Discard all retained events
+     */
+    public void clear();
+}
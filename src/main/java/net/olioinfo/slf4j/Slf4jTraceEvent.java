@@ -0,0 +1,84 @@
+/* Copyright 2009-2010 Tracy Flynn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.olioinfo.slf4j;
+
+
+/**
+ * A single trace event recorded in the Slf4jTraceBuffer. Events are immutable.
+ *
+ * @author Tracy Flynn
+ * @since 2.12
+ */
+public class Slf4jTraceEvent {
+
+    private final long sequence;
+
+    private final long timestamp;
+
+    private final String phase;
+
+    private final String key;
+
+    private final String oldValue;
+
+    private final String newValue;
+
+    public Slf4jTraceEvent(long sequence, long timestamp, String phase, String key, String oldValue, String newValue) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.phase = phase;
+        this.key = key;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    /**
+     * Get the position of this event in the overall trace
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Get the time the event was recorded, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Get the configuration phase, e.g. 'load', 'logDir', 'reset'
+     */
+    public String getPhase() {
+        return phase;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("consoleTrace: %d %tFT%<tT.%<tL %s %s %s -> %s", sequence, timestamp, phase, key, oldValue, newValue);
+    }
+}
@@ -0,0 +1,113 @@
+/* Copyright 2009-2010 Tracy Flynn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.olioinfo.slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Test suite for Slf4jAppenderDrain
+ *
+ * @author Tracy Flynn
+ * @since 2.12
+ */
+public class Slf4jAppenderDrainTest {
+
+    @Test
+    public void testCloseAppenders() {
+        TestAppender first = new TestAppender(0);
+        TestAppender second = new TestAppender(0);
+        ArrayList<Appender> appenders = new ArrayList<Appender>();
+        appenders.add(first);
+        appenders.add(second);
+
+        assertEquals(0, Slf4jAppenderDrain.closeAppenders(appenders, 5000));
+        assertTrue(first.closed);
+        assertTrue(second.closed);
+    }
+
+    @Test(timeout = 5000)
+    public void testCloseAppendersHonoursDeadline() {
+        TestAppender stuck = new TestAppender(60000);
+        TestAppender quick = new TestAppender(0);
+        ArrayList<Appender> appenders = new ArrayList<Appender>();
+        appenders.add(stuck);
+        appenders.add(quick);
+
+        assertEquals(1, Slf4jAppenderDrain.closeAppenders(appenders, 200));
+        assertFalse(stuck.closed);
+        assertTrue(quick.closed);
+    }
+
+    @Test
+    public void testShutdown() {
+        HashMap<String,String> testOptions = new HashMap<String,String>();
+        testOptions.put("net.olioinfo.eeproperties.configurationFile.prefix","test-log4j-");
+        Slf4jExt slf4jExt = new Slf4jExt();
+        slf4jExt.configureLogging(Slf4jExt.class,testOptions,null);
+
+        assertTrue(slf4jExt.shutdown(5000));
+        assertFalse(org.apache.log4j.Logger.getLogger(Slf4jExt.class).getAllAppenders().hasMoreElements());
+
+        slf4jExt.resetLogging();
+        assertTrue(org.apache.log4j.Logger.getLogger(Slf4jExt.class).getAllAppenders().hasMoreElements());
+
+        // resetLogging must register the definitions again, so a later shutdown still finds the appenders
+        assertTrue(slf4jExt.shutdown(5000));
+        assertFalse(org.apache.log4j.Logger.getLogger(Slf4jExt.class).getAllAppenders().hasMoreElements());
+    }
+
+    /**
+     * Appender that takes a while to close
+     */
+    private static class TestAppender extends AppenderSkeleton {
+
+        private final long closeMillis;
+
+        private volatile boolean closed = false;
+
+        TestAppender(long closeMillis) {
+            this.closeMillis = closeMillis;
+        }
+
+        protected void append(LoggingEvent event) {
+        }
+
+        public boolean requiresLayout() {
+            return false;
+        }
+
+        public void close() {
+            try {
+                Thread.sleep(this.closeMillis);
+                this.closed = true;
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+/* Copyright 2009-2010 Tracy Flynn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.olioinfo.slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Test suite for Slf4jExtLogger
+ *
+ * @author Tracy Flynn
+ * @since 2.12
+ */
+public class Slf4jExtLoggerTest {
+
+    @Test
+    public void testLevelsFollowConfiguration() {
+        HashMap<String,String> testOptions = new HashMap<String,String>();
+        testOptions.put("net.olioinfo.eeproperties.configurationFile.prefix","test-log4j-");
+        Slf4jExt slf4jExt = new Slf4jExt();
+        slf4jExt.configureLogging(Slf4jExt.class,testOptions,null);
+
+        Slf4jExtLogger logger = Slf4jExtLogger.getLogger(Slf4jExt.class);
+        assertTrue(logger.isDebugEnabled());
+        assertFalse(logger.isTraceEnabled());
+
+        logger.debug("This one should show up on the console {} {} {}", "one", 2L, 3.0);
+        logger.trace("This one should not show up on the console {} {}", 1L, 2L);
+
+        org.apache.log4j.Logger.getLogger(Slf4jExt.class).setLevel(org.apache.log4j.Level.ERROR);
+        assertTrue(logger.isDebugEnabled());
+
+        Slf4jExtLogger.invalidateLevelCaches();
+        assertFalse(logger.isDebugEnabled());
+
+        slf4jExt.resetLogging();
+        assertTrue(logger.isDebugEnabled());
+    }
+
+    @Test
+    public void testCallShapes() {
+        Slf4jExtLogger logger = Slf4jExtLogger.getLogger(Slf4jExtLoggerTest.class);
+        Object value = "value";
+        int count = 3;
+        long total = 4L;
+
+        // Every call shape that compiles against org.slf4j.Logger must compile, unambiguously, here too
+        logger.debug("{}", value);
+        logger.debug("{}", count);
+        logger.debug("{}", 1.5);
+        logger.debug("{}", true);
+        logger.debug("{} {}", value, value);
+        logger.debug("{} {}", 1.5, 2L);
+        logger.debug("{} {}", 2L, true);
+        logger.debug("{} {}", value, 2L);
+        logger.debug("{} {}", 2L, value);
+        logger.debug("{} {}", count, total);
+        logger.debug("{} {} {}", count, total, 5);
+        logger.debug("{} {} {}", value, 1.5, total);
+        logger.debug("{} {} {} {}", count, total, 5, 6L);
+        logger.debug("{} {} {} {}", value, value, value, value);
+        logger.debug("{}", new Object[] {value, value, value});
+        logger.debug("message", new RuntimeException("test"));
+        logger.info("{} {}", 1.5, 2L);
+        logger.warn("{} {}", 2L, true);
+        logger.error("{} {} {}", count, total, 5);
+        logger.trace("{} {} {} {}", count, total, 5, 6L);
+    }
+
+    @Test
+    public void testFormattedOutput() {
+        org.apache.log4j.Logger log4jLogger = org.apache.log4j.Logger.getLogger(Slf4jExtLoggerTest.class);
+        CapturingAppender appender = new CapturingAppender();
+        log4jLogger.addAppender(appender);
+        log4jLogger.setLevel(Level.DEBUG);
+        Slf4jExtLogger.invalidateLevelCaches();
+        try {
+            Slf4jExtLogger logger = Slf4jExtLogger.getLogger(Slf4jExtLoggerTest.class);
+            int count = 3;
+            short small = 7;
+            byte tiny = 8;
+
+            // Each primitive must be logged as itself, not widened to another type
+            logger.debug("{}", 'c');
+            logger.debug("{}", 0.1f);
+            logger.debug("{}", 0.1);
+            logger.debug("{}", count);
+            logger.debug("{}", small);
+            logger.debug("{}", tiny);
+            logger.debug("{}", 9L);
+            logger.debug("{}", true);
+            logger.debug("{} {}", 'a', 1);
+            logger.debug("{} {}", 0.5f, 'b');
+            logger.debug("{} {} {}", 'x', 2L, 0.25f);
+            logger.debug("{} {} {} {}", count, 'y', 1.5, false);
+            logger.trace("{}", 'z');
+
+            String[] expected = {"c", "0.1", "0.1", "3", "7", "8", "9", "true", "a 1", "0.5 b", "x 2 0.25",
+                    "3 y 1.5 false"};
+            assertEquals(expected.length, appender.messages.size());
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], appender.messages.get(i));
+            }
+        }
+        finally {
+            log4jLogger.removeAppender(appender);
+            log4jLogger.setLevel(null);
+            Slf4jExtLogger.invalidateLevelCaches();
+        }
+    }
+
+    /**
+     * Appender that keeps the rendered messages
+     */
+    private static class CapturingAppender extends AppenderSkeleton {
+
+        private final ArrayList<String> messages = new ArrayList<String>();
+
+        protected void append(LoggingEvent event) {
+            this.messages.add(event.getRenderedMessage());
+        }
+
+        public boolean requiresLayout() {
+            return false;
+        }
+
+        public void close() {
+        }
+    }
+
+}
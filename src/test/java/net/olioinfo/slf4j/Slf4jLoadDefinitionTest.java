@@ -0,0 +1,49 @@
+/* Copyright 2009-2010 Tracy Flynn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.olioinfo.slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Test suite for Slf4jLoadDefinition
+ *
+ * @author Tracy Flynn
+ * @since 2.12
+ */
+public class Slf4jLoadDefinitionTest {
+
+    @Test
+    public void testLoadDefinitionsSnapshot() {
+        ArrayList<Slf4jLoadDefinition> loadDefinitions = Slf4jLoadDefinition.getLoadDefinitions();
+        int size = loadDefinitions.size();
+
+        new Slf4jLoadDefinition(Slf4jExt.class, new Properties(), new HashMap<String,String>());
+
+        // Registering must not disturb a list already handed out, e.g. to the shutdown hook
+        for (Slf4jLoadDefinition loadDefinition : loadDefinitions) {
+            loadDefinition.getConfiguredLoggers();
+        }
+        assertEquals(size, loadDefinitions.size());
+        assertEquals(size + 1, Slf4jLoadDefinition.getLoadDefinitions().size());
+    }
+
+}
@@ -0,0 +1,117 @@
+/* Copyright 2009-2010 Tracy Flynn
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.olioinfo.slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Test suite for Slf4jTraceBuffer
+ *
+ * @author Tracy Flynn
+ * @since 2.12
+ */
+public class Slf4jTraceBufferTest {
+
+    @Test
+    public void testWrapAround() {
+        Slf4jTraceBuffer traceBuffer = new Slf4jTraceBuffer(4);
+        for (int i = 0; i < 10; i++) {
+            traceBuffer.record("load", "key" + i, null, Integer.toString(i));
+        }
+
+        ArrayList<Slf4jTraceEvent> events = traceBuffer.getEvents();
+        assertEquals(10, traceBuffer.getRecordedCount());
+        assertEquals(4, events.size());
+        assertEquals("key6", events.get(0).getKey());
+        assertEquals("key9", events.get(3).getKey());
+    }
+
+    @Test
+    public void testClear() {
+        Slf4jTraceBuffer traceBuffer = new Slf4jTraceBuffer(4);
+        traceBuffer.record("load", "key", "old", "new");
+        traceBuffer.clear();
+
+        assertEquals(0, traceBuffer.getEvents().size());
+        assertEquals("", traceBuffer.dump());
+    }
+
+    @Test
+    public void testUnregister() throws Exception {
+        Slf4jTraceBuffer.singleton();
+        // Null if an earlier test has already shut down
+        ObjectName name = Slf4jTraceBuffer.getRegisteredName();
+        if (name != null) {
+            assertTrue(name.toString().contains("classLoader="));
+            assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        }
+
+        Slf4jTraceBuffer.unregister();
+        assertNull(Slf4jTraceBuffer.getRegisteredName());
+        if (name != null) {
+            assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        }
+    }
+
+    @Test
+    public void testConfigureWithTracing() {
+        Slf4jTraceBuffer.singleton().clear();
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream capturedOut = new ByteArrayOutputStream();
+        System.setProperty("net.olioinfo.slf4j.consoleTracing", "true");
+        try {
+            System.setOut(new PrintStream(capturedOut, true));
+            Slf4jExt slf4jExt = new Slf4jExt();
+            HashMap<String,String> testOptions = new HashMap<String,String>();
+            testOptions.put("net.olioinfo.eeproperties.configurationFile.prefix","test-log4j-");
+            slf4jExt.configureLogging(Slf4jExt.class,testOptions,null);
+        }
+        finally {
+            System.setOut(originalOut);
+            System.clearProperty("net.olioinfo.slf4j.consoleTracing");
+        }
+
+        boolean loadEventFound = false;
+        boolean configureEventFound = false;
+        for (Slf4jTraceEvent event : Slf4jTraceBuffer.singleton().getEvents()) {
+            if (event.getPhase().equals("load") && "log4j.appender.net.olioinfo.slf4j.Slf4jExt.CONSOLE_APPENDER".equals(event.getKey())) {
+                loadEventFound = true;
+                assertEquals("org.apache.log4j.ConsoleAppender", event.getNewValue());
+            }
+            if (event.getPhase().equals("configure") && Slf4jExt.class.getName().equals(event.getKey())) {
+                configureEventFound = true;
+                assertEquals("finished", event.getNewValue());
+            }
+        }
+        assertTrue(loadEventFound);
+        assertTrue(configureEventFound);
+        assertFalse(capturedOut.toString().contains("consoleTrace:"));
+    }
+
+}